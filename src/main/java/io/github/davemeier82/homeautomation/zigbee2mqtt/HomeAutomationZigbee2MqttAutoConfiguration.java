@@ -1,5 +1,5 @@
 /*
- * Copyright 2021-2021 the original author or authors.
+ * Copyright 2021-2026 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,17 +17,28 @@
 package io.github.davemeier82.homeautomation.zigbee2mqtt;
 
 import io.github.davemeier82.homeautomation.core.mqtt.MqttClient;
+import io.github.davemeier82.homeautomation.core.updater.AlarmStateValueUpdateService;
+import io.github.davemeier82.homeautomation.core.updater.RelayStateValueUpdateService;
 import io.github.davemeier82.homeautomation.spring.core.HomeAutomationCoreMqttAutoConfiguration;
 import io.github.davemeier82.homeautomation.zigbee2mqtt.device.Zigbee2MqttDeviceTypeFactory;
 import io.github.davemeier82.homeautomation.zigbee2mqtt.device.property.Zigbee2MqttAlarmDevicePropertyController;
+import io.github.davemeier82.homeautomation.zigbee2mqtt.device.property.Zigbee2MqttDimmerDevicePropertyController;
+import io.github.davemeier82.homeautomation.zigbee2mqtt.device.property.Zigbee2MqttOptimisticStateTracker;
 import io.github.davemeier82.homeautomation.zigbee2mqtt.device.property.Zigbee2MqttRelayDevicePropertyController;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
-@Configuration
+import java.time.Duration;
+
+@Configuration(proxyBeanMethods = false)
 @AutoConfigureAfter({HomeAutomationCoreMqttAutoConfiguration.class})
 public class HomeAutomationZigbee2MqttAutoConfiguration {
 
@@ -47,15 +58,59 @@ public class HomeAutomationZigbee2MqttAutoConfiguration {
 
   @Bean
   @ConditionalOnMissingBean
+  Zigbee2MqttGroupRegistry zigbee2MqttGroupRegistry(@Value("${homeautomation.zigbee2mqtt.group.echo-window:5s}") Duration echoWindow) {
+    return new Zigbee2MqttGroupRegistry(echoWindow);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnProperty(prefix = "homeautomation.zigbee2mqtt.optimistic", name = "enabled", havingValue = "true")
+  Zigbee2MqttOptimisticStateTracker zigbee2MqttOptimisticStateTracker(ApplicationEventPublisher applicationEventPublisher,
+                                                                      @Value("${homeautomation.zigbee2mqtt.optimistic.timeout:5s}") Duration timeout
+  ) {
+    return new Zigbee2MqttOptimisticStateTracker(applicationEventPublisher, timeout);
+  }
+
+  @Bean
+  @Lazy
+  @ConditionalOnMissingBean
   @ConditionalOnBean(MqttClient.class)
-  Zigbee2MqttAlarmDevicePropertyController zigbee2MqttAlarmDevicePropertyController(MqttClient mqttClient) {
+  Zigbee2MqttAlarmDevicePropertyController zigbee2MqttAlarmDevicePropertyController(MqttClient mqttClient,
+                                                                                    ObjectProvider<Zigbee2MqttOptimisticStateTracker> optimisticStateTracker,
+                                                                                    ObjectProvider<AlarmStateValueUpdateService> alarmStateValueUpdateService
+  ) {
+    Zigbee2MqttOptimisticStateTracker tracker = optimisticStateTracker.getIfAvailable();
+    AlarmStateValueUpdateService updateService = alarmStateValueUpdateService.getIfAvailable();
+    if (tracker != null && updateService != null) {
+      return new Zigbee2MqttAlarmDevicePropertyController(mqttClient, tracker, updateService);
+    }
     return new Zigbee2MqttAlarmDevicePropertyController(mqttClient);
   }
 
   @Bean
+  @Lazy
+  @ConditionalOnMissingBean
+  @ConditionalOnBean(MqttClient.class)
+  Zigbee2MqttRelayDevicePropertyController zigbee2MqttRelayDevicePropertyController(MqttClient mqttClient,
+                                                                                    ObjectProvider<RelayStateValueUpdateService> relayStateValueUpdateService,
+                                                                                    ObjectProvider<Zigbee2MqttGroupRegistry> groupRegistry,
+                                                                                    ObjectProvider<Zigbee2MqttOptimisticStateTracker> optimisticStateTracker
+  ) {
+    RelayStateValueUpdateService updateService = relayStateValueUpdateService.getIfAvailable();
+    if (updateService == null) {
+      return new Zigbee2MqttRelayDevicePropertyController(mqttClient);
+    }
+    return new Zigbee2MqttRelayDevicePropertyController(mqttClient, updateService, groupRegistry.getIfAvailable(), optimisticStateTracker.getIfAvailable());
+  }
+
+  @Bean
+  @Lazy
   @ConditionalOnMissingBean
   @ConditionalOnBean(MqttClient.class)
-  Zigbee2MqttRelayDevicePropertyController zigbee2MqttRelayDevicePropertyController(MqttClient mqttClient) {
-    return new Zigbee2MqttRelayDevicePropertyController(mqttClient);
+  Zigbee2MqttDimmerDevicePropertyController zigbee2MqttDimmerDevicePropertyController(MqttClient mqttClient,
+                                                                                      ApplicationEventPublisher applicationEventPublisher,
+                                                                                      @Value("${homeautomation.zigbee2mqtt.dimmer.min-command-interval:250ms}") Duration minCommandInterval
+  ) {
+    return new Zigbee2MqttDimmerDevicePropertyController(mqttClient, applicationEventPublisher, minCommandInterval);
   }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2021-2021 the original author or authors.
+ * Copyright 2021-2026 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,45 +19,54 @@ package io.github.davemeier82.homeautomation.zigbee2mqtt;
 import io.github.davemeier82.homeautomation.core.repositories.DeviceRepository;
 import io.github.davemeier82.homeautomation.core.updater.AlarmStateValueUpdateService;
 import io.github.davemeier82.homeautomation.core.updater.BatteryLevelUpdateService;
-import io.github.davemeier82.homeautomation.core.updater.CloudBaseValueUpdateService;
 import io.github.davemeier82.homeautomation.core.updater.Co2ValueUpdateService;
 import io.github.davemeier82.homeautomation.core.updater.HumidityValueUpdateService;
 import io.github.davemeier82.homeautomation.core.updater.IlluminanceValueUpdateService;
 import io.github.davemeier82.homeautomation.core.updater.MotionStateValueUpdateService;
-import io.github.davemeier82.homeautomation.core.updater.PressureValueUpdateService;
-import io.github.davemeier82.homeautomation.core.updater.RainIntervalValueUpdateService;
-import io.github.davemeier82.homeautomation.core.updater.RainRateValueUpdateService;
-import io.github.davemeier82.homeautomation.core.updater.RainTodayValueUpdateService;
 import io.github.davemeier82.homeautomation.core.updater.RelayStateValueUpdateService;
 import io.github.davemeier82.homeautomation.core.updater.SmokeStateValueUpdateService;
 import io.github.davemeier82.homeautomation.core.updater.TemperatureValueUpdateService;
-import io.github.davemeier82.homeautomation.core.updater.UvIndexValueUpdateService;
-import io.github.davemeier82.homeautomation.core.updater.WindDirectionValueUpdateService;
-import io.github.davemeier82.homeautomation.core.updater.WindGustDirectionValueUpdateService;
-import io.github.davemeier82.homeautomation.core.updater.WindGustSpeedValueUpdateService;
-import io.github.davemeier82.homeautomation.core.updater.WindRunValueUpdateService;
-import io.github.davemeier82.homeautomation.core.updater.WindSpeedValueUpdateService;
 import io.github.davemeier82.homeautomation.core.updater.WindowStateValueUpdateService;
 import io.github.davemeier82.homeautomation.spring.core.HomeAutomationCorePersistenceAutoConfiguration;
 import io.github.davemeier82.homeautomation.spring.core.HomeAutomationCoreValueUpdateServiceAutoConfiguration;
+import io.github.davemeier82.homeautomation.zigbee2mqtt.device.property.Zigbee2MqttDimmerDevicePropertyController;
+import io.github.davemeier82.homeautomation.zigbee2mqtt.device.property.Zigbee2MqttOptimisticStateTracker;
+import io.github.davemeier82.homeautomation.zigbee2mqtt.diagnostics.Zigbee2MqttMessageRecorder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import tools.jackson.databind.ObjectMapper;
 
-@Configuration
-@AutoConfigureAfter({HomeAutomationCoreValueUpdateServiceAutoConfiguration.class, HomeAutomationCorePersistenceAutoConfiguration.class, JacksonAutoConfiguration.class})
+import java.util.Optional;
+
+@Configuration(proxyBeanMethods = false)
+@AutoConfigureAfter({HomeAutomationCoreValueUpdateServiceAutoConfiguration.class, HomeAutomationCorePersistenceAutoConfiguration.class, JacksonAutoConfiguration.class,
+    HomeAutomationZigbee2MqttAutoConfiguration.class})
+@ImportRuntimeHints(Zigbee2MqttRuntimeHints.class)
 public class HomeAutomationZigbee2MqttSubscriberAutoConfiguration {
 
   @Bean
   @ConditionalOnMissingBean
-  @ConditionalOnBean({ObjectMapper.class, TemperatureValueUpdateService.class, HumidityValueUpdateService.class, PressureValueUpdateService.class, CloudBaseValueUpdateService.class,
-      RainIntervalValueUpdateService.class, RainTodayValueUpdateService.class, RainRateValueUpdateService.class, IlluminanceValueUpdateService.class, UvIndexValueUpdateService.class,
-      WindSpeedValueUpdateService.class, WindDirectionValueUpdateService.class, WindGustSpeedValueUpdateService.class, WindGustDirectionValueUpdateService.class, WindRunValueUpdateService.class,
-      DeviceRepository.class, Zigbee2MqttDeviceFactory.class})
+  @ConditionalOnProperty(prefix = "homeautomation.zigbee2mqtt.diagnostics", name = "enabled", havingValue = "true")
+  Zigbee2MqttMessageRecorder zigbee2MqttMessageRecorder(@Value("${homeautomation.zigbee2mqtt.diagnostics.capacity-per-device:16}") int capacityPerDevice,
+                                                        @Value("${homeautomation.zigbee2mqtt.diagnostics.max-payload-size:1024}") int maxPayloadSize,
+                                                        @Value("${homeautomation.zigbee2mqtt.diagnostics.max-devices:256}") int maxDevices
+  ) {
+    return new Zigbee2MqttMessageRecorder(capacityPerDevice, maxPayloadSize, maxDevices);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnBean({ObjectMapper.class, TemperatureValueUpdateService.class, HumidityValueUpdateService.class, BatteryLevelUpdateService.class, IlluminanceValueUpdateService.class,
+      MotionStateValueUpdateService.class, RelayStateValueUpdateService.class, WindowStateValueUpdateService.class, SmokeStateValueUpdateService.class, Co2ValueUpdateService.class,
+      AlarmStateValueUpdateService.class, DeviceRepository.class, Zigbee2MqttDeviceFactory.class, Zigbee2MqttGroupRegistry.class})
   Zigbee2MqttSubscriber zigbee2MqttSubscriber(ObjectMapper objectMapper,
                                               TemperatureValueUpdateService temperatureValueUpdateService,
                                               HumidityValueUpdateService humidityValueUpdateService,
@@ -70,10 +79,16 @@ public class HomeAutomationZigbee2MqttSubscriberAutoConfiguration {
                                               Co2ValueUpdateService co2ValueUpdateService,
                                               AlarmStateValueUpdateService alarmStateValueUpdateService,
                                               DeviceRepository deviceRepository,
-                                              Zigbee2MqttDeviceFactory zigbee2MqttDeviceFactory
+                                              Zigbee2MqttDeviceFactory zigbee2MqttDeviceFactory,
+                                              Zigbee2MqttGroupRegistry zigbee2MqttGroupRegistry,
+                                              ObjectProvider<Zigbee2MqttMessageRecorder> messageRecorder,
+                                              ObjectProvider<Zigbee2MqttDimmerDevicePropertyController> dimmerDevicePropertyController,
+                                              ObjectProvider<Zigbee2MqttOptimisticStateTracker> optimisticStateTracker
   ) {
     return new Zigbee2MqttSubscriber(objectMapper, temperatureValueUpdateService, humidityValueUpdateService, batteryLevelUpdateService, illuminanceValueUpdateService, motionStateValueUpdateService,
-        relayStateValueUpdateService, windowStateValueUpdateService, smokeStateValueUpdateService, co2ValueUpdateService, alarmStateValueUpdateService, deviceRepository, zigbee2MqttDeviceFactory);
+        relayStateValueUpdateService, windowStateValueUpdateService, smokeStateValueUpdateService, co2ValueUpdateService, alarmStateValueUpdateService, deviceRepository, zigbee2MqttDeviceFactory,
+        zigbee2MqttGroupRegistry, messageRecorder.getIfAvailable(),
+        () -> Optional.ofNullable(dimmerDevicePropertyController.getIfAvailable()), optimisticStateTracker.getIfAvailable());
   }
 
 }
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2021-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.davemeier82.homeautomation.zigbee2mqtt;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class Zigbee2MqttBridgeDevice {
+  @JsonProperty("ieee_address")
+  private String ieeeAddress;
+  @JsonProperty("friendly_name")
+  private String friendlyName;
+
+  public String getIeeeAddress() {
+    return ieeeAddress;
+  }
+
+  public void setIeeeAddress(String ieeeAddress) {
+    this.ieeeAddress = ieeeAddress;
+  }
+
+  public String getFriendlyName() {
+    return friendlyName;
+  }
+
+  public void setFriendlyName(String friendlyName) {
+    this.friendlyName = friendlyName;
+  }
+}
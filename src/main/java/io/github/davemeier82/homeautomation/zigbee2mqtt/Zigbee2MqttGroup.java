@@ -0,0 +1,29 @@
+/*
+ * Copyright 2021-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.davemeier82.homeautomation.zigbee2mqtt;
+
+import io.github.davemeier82.homeautomation.core.device.DeviceId;
+import io.github.davemeier82.homeautomation.core.device.property.DevicePropertyId;
+
+import java.util.List;
+
+public record Zigbee2MqttGroup(String name, List<DeviceId> members, List<DevicePropertyId> relayPropertyIds) {
+
+  public static Zigbee2MqttGroup of(String name, List<DeviceId> members) {
+    return new Zigbee2MqttGroup(name, List.copyOf(members), members.stream().map(member -> new DevicePropertyId(member, "relay")).toList());
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.davemeier82.homeautomation.zigbee2mqtt;
+
+import io.github.davemeier82.homeautomation.core.device.DeviceId;
+import io.github.davemeier82.homeautomation.core.device.property.DevicePropertyId;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.github.davemeier82.homeautomation.zigbee2mqtt.device.Zigbee2MqttDeviceType.ZIGBEE_2_MQTT;
+import static java.util.stream.Collectors.toMap;
+
+public class Zigbee2MqttGroupRegistry {
+  private final long echoWindowNanos;
+  private final Map<DevicePropertyId, MemberEcho> memberEchoes = new ConcurrentHashMap<>();
+  private List<Zigbee2MqttBridgeDevice> devices = List.of();
+  private List<Zigbee2MqttBridgeGroup> bridgeGroups = List.of();
+  private volatile Map<String, Zigbee2MqttGroup> groupsByName = Map.of();
+
+  public Zigbee2MqttGroupRegistry(Duration echoWindow) {
+    this.echoWindowNanos = echoWindow.toNanos();
+  }
+
+  public synchronized void setDevices(List<Zigbee2MqttBridgeDevice> devices) {
+    this.devices = List.copyOf(devices);
+    rebuild();
+  }
+
+  public synchronized void setGroups(List<Zigbee2MqttBridgeGroup> bridgeGroups) {
+    this.bridgeGroups = List.copyOf(bridgeGroups);
+    rebuild();
+  }
+
+  public synchronized Set<String> getFriendlyNames() {
+    Set<String> friendlyNames = new HashSet<>();
+    devices.stream().map(Zigbee2MqttBridgeDevice::getFriendlyName).filter(Objects::nonNull).forEach(friendlyNames::add);
+    bridgeGroups.stream().map(Zigbee2MqttBridgeGroup::getFriendlyName).filter(Objects::nonNull).forEach(friendlyNames::add);
+    return friendlyNames;
+  }
+
+  public Optional<Zigbee2MqttGroup> getGroup(String name) {
+    return Optional.ofNullable(groupsByName.get(name));
+  }
+
+  public Collection<Zigbee2MqttGroup> getGroups() {
+    return groupsByName.values();
+  }
+
+  /**
+   * Registers the state a member is expected to report after a group change. If {@code published} is false, the first matching
+   * report is still applied and only the duplicates that follow within the echo window are suppressed.
+   */
+  public void expectMemberEcho(DevicePropertyId memberPropertyId, Object value, boolean published) {
+    memberEchoes.put(memberPropertyId, new MemberEcho(value, System.nanoTime() + echoWindowNanos, published));
+  }
+
+  public boolean isMemberEcho(DevicePropertyId memberPropertyId, Object value) {
+    MemberEcho echo = memberEchoes.get(memberPropertyId);
+    if (echo == null) {
+      return false;
+    }
+    if (echo.value().equals(value) && System.nanoTime() - echo.expiresAtNanos() < 0) {
+      return echo.published() || !memberEchoes.replace(memberPropertyId, echo, new MemberEcho(value, echo.expiresAtNanos(), true));
+    }
+    memberEchoes.remove(memberPropertyId, echo);
+    return false;
+  }
+
+  private void rebuild() {
+    Map<String, String> friendlyNameByIeeeAddress = devices.stream()
+        .filter(device -> device.getIeeeAddress() != null && device.getFriendlyName() != null)
+        .collect(toMap(Zigbee2MqttBridgeDevice::getIeeeAddress, Zigbee2MqttBridgeDevice::getFriendlyName, (first, second) -> second));
+    Map<String, Zigbee2MqttGroup> groups = new HashMap<>();
+    for (Zigbee2MqttBridgeGroup bridgeGroup : bridgeGroups) {
+      if (bridgeGroup.getFriendlyName() == null) {
+        continue;
+      }
+      List<Zigbee2MqttBridgeGroup.Member> members = bridgeGroup.getMembers() == null ? List.of() : bridgeGroup.getMembers();
+      List<DeviceId> memberIds = members.stream()
+          .map(member -> friendlyNameByIeeeAddress.get(member.getIeeeAddress()))
+          .filter(Objects::nonNull)
+          .distinct()
+          .map(friendlyName -> new DeviceId(friendlyName, ZIGBEE_2_MQTT))
+          .toList();
+      groups.put(bridgeGroup.getFriendlyName(), Zigbee2MqttGroup.of(bridgeGroup.getFriendlyName(), memberIds));
+    }
+    groupsByName = Map.copyOf(groups);
+  }
+
+  private record MemberEcho(Object value, long expiresAtNanos, boolean published) {
+  }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2021-2024 the original author or authors.
+ * Copyright 2021-2026 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,14 +32,19 @@ import io.github.davemeier82.homeautomation.core.updater.RelayStateValueUpdateSe
 import io.github.davemeier82.homeautomation.core.updater.SmokeStateValueUpdateService;
 import io.github.davemeier82.homeautomation.core.updater.TemperatureValueUpdateService;
 import io.github.davemeier82.homeautomation.core.updater.WindowStateValueUpdateService;
+import io.github.davemeier82.homeautomation.zigbee2mqtt.device.property.Zigbee2MqttDimmerDevicePropertyController;
+import io.github.davemeier82.homeautomation.zigbee2mqtt.device.property.Zigbee2MqttOptimisticStateTracker;
+import io.github.davemeier82.homeautomation.zigbee2mqtt.diagnostics.Zigbee2MqttMessageRecorder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import tools.jackson.databind.ObjectMapper;
 
 import java.nio.ByteBuffer;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static io.github.davemeier82.homeautomation.zigbee2mqtt.device.Zigbee2MqttDeviceType.ZIGBEE_2_MQTT;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -60,6 +65,10 @@ public class Zigbee2MqttSubscriber implements MqttSubscriber {
   private final AlarmStateValueUpdateService alarmStateValueUpdateService;
   private final DeviceRepository deviceRepository;
   private final Zigbee2MqttDeviceFactory zigbee2MqttDeviceFactory;
+  private final Zigbee2MqttGroupRegistry groupRegistry;
+  private final Zigbee2MqttMessageRecorder messageRecorder;
+  private final Supplier<Optional<Zigbee2MqttDimmerDevicePropertyController>> dimmerDevicePropertyController;
+  private final Zigbee2MqttOptimisticStateTracker optimisticStateTracker;
 
   public Zigbee2MqttSubscriber(ObjectMapper objectMapper,
                                TemperatureValueUpdateService temperatureValueUpdateService,
@@ -73,7 +82,11 @@ public class Zigbee2MqttSubscriber implements MqttSubscriber {
                                Co2ValueUpdateService co2ValueUpdateService,
                                AlarmStateValueUpdateService alarmStateValueUpdateService,
                                DeviceRepository deviceRepository,
-                               Zigbee2MqttDeviceFactory zigbee2MqttDeviceFactory
+                               Zigbee2MqttDeviceFactory zigbee2MqttDeviceFactory,
+                               Zigbee2MqttGroupRegistry groupRegistry,
+                               Zigbee2MqttMessageRecorder messageRecorder,
+                               Supplier<Optional<Zigbee2MqttDimmerDevicePropertyController>> dimmerDevicePropertyController,
+                               Zigbee2MqttOptimisticStateTracker optimisticStateTracker
   ) {
     this.objectMapper = objectMapper;
     this.temperatureValueUpdateService = temperatureValueUpdateService;
@@ -88,6 +101,10 @@ public class Zigbee2MqttSubscriber implements MqttSubscriber {
     this.alarmStateValueUpdateService = alarmStateValueUpdateService;
     this.deviceRepository = deviceRepository;
     this.zigbee2MqttDeviceFactory = zigbee2MqttDeviceFactory;
+    this.groupRegistry = groupRegistry;
+    this.messageRecorder = messageRecorder;
+    this.dimmerDevicePropertyController = dimmerDevicePropertyController;
+    this.optimisticStateTracker = optimisticStateTracker;
   }
 
   @Override
@@ -98,19 +115,27 @@ public class Zigbee2MqttSubscriber implements MqttSubscriber {
   @Override
   public void processMessage(String topic, Optional<ByteBuffer> payload) {
     String[] topicParts = topic.split("/");
-    if (topicParts.length < 2 || topicParts[1].equals("bridge")) {
+    if (topicParts.length < 2) {
+      log.debug("ignoring message for topic {}", topic);
+      return;
+    }
+    if (topicParts[1].equals("bridge")) {
+      processBridgeMessage(topic, topicParts, payload);
+      return;
+    }
+    if (topicParts.length != 2) {
+      // commands (/set, /get) and /availability are not state reports of the device
       log.debug("ignoring message for topic {}", topic);
       return;
     }
     payload.ifPresent(byteBuffer -> {
+      if (messageRecorder != null) {
+        messageRecorder.record(topicParts[1], byteBuffer);
+      }
       String message = UTF_8.decode(byteBuffer).toString();
       log.debug("{}: {}", topic, message);
       DeviceId deviceId = new DeviceId(topicParts[1], ZIGBEE_2_MQTT);
-      deviceRepository.getByDeviceId(deviceId).orElseGet(() -> {
-        Device newDevice = zigbee2MqttDeviceFactory.createDevice(deviceId.type(), deviceId.id(), deviceId.toString(), Map.of(), Map.of()).orElseThrow();
-        deviceRepository.save(newDevice);
-        return newDevice;
-      });
+      getOrCreateDevice(deviceId);
       Zigbee2MqttMessage zigbee2MqttMessage = objectMapper.readValue(message, Zigbee2MqttMessage.class);
       if (zigbee2MqttMessage.getBattery() != null) {
         batteryLevelUpdateService.setValue(zigbee2MqttMessage.getBattery(), OffsetDateTime.now(), new DevicePropertyId(deviceId, "battery"), deviceId + ": Battery Level");
@@ -126,7 +151,18 @@ public class Zigbee2MqttSubscriber implements MqttSubscriber {
       }
       if (zigbee2MqttMessage.getState() != null) {
         boolean isOn = zigbee2MqttMessage.getState().equalsIgnoreCase("ON");
-        relayStateValueUpdateService.setValue(isOn, OffsetDateTime.now(), new DevicePropertyId(deviceId, "relay"), deviceId + ": Relay");
+        DevicePropertyId relayPropertyId = new DevicePropertyId(deviceId, "relay");
+        boolean confirmed = isOptimisticStateConfirmation(relayPropertyId, isOn);
+        boolean memberEcho = groupRegistry.isMemberEcho(relayPropertyId, isOn);
+        if (!confirmed && !memberEcho) {
+          relayStateValueUpdateService.setValue(isOn, OffsetDateTime.now(), relayPropertyId, deviceId + ": Relay");
+        }
+        if (!isOn) {
+          groupRegistry.getGroup(deviceId.id()).ifPresent(this::turnOffGroupMembers);
+        }
+      }
+      if (zigbee2MqttMessage.getBrightness() != null) {
+        dimmerDevicePropertyController.get().ifPresent(controller -> controller.brightnessReported(deviceId, zigbee2MqttMessage.getBrightness()));
       }
       if (zigbee2MqttMessage.getOccupancy() != null) {
         motionStateValueUpdateService.setValue(zigbee2MqttMessage.getOccupancy(), OffsetDateTime.now(), new DevicePropertyId(deviceId, "motion"), deviceId + ": Motion State");
@@ -141,8 +177,65 @@ public class Zigbee2MqttSubscriber implements MqttSubscriber {
         smokeStateValueUpdateService.setValue(zigbee2MqttMessage.getSmoke(), OffsetDateTime.now(), new DevicePropertyId(deviceId, "smoke"), deviceId + ": Smoke State");
       }
       if (zigbee2MqttMessage.getSirenState() != null) {
-        alarmStateValueUpdateService.setValue(toAlarmState(zigbee2MqttMessage.getSirenState()), OffsetDateTime.now(), new DevicePropertyId(deviceId, "alarm"), deviceId + ": Alarm State");
+        AlarmState alarmState = toAlarmState(zigbee2MqttMessage.getSirenState());
+        DevicePropertyId alarmPropertyId = new DevicePropertyId(deviceId, "alarm");
+        if (!isOptimisticStateConfirmation(alarmPropertyId, alarmState)) {
+          alarmStateValueUpdateService.setValue(alarmState, OffsetDateTime.now(), alarmPropertyId, deviceId + ": Alarm State");
+        }
+      }
+    });
+  }
+
+  private void processBridgeMessage(String topic, String[] topicParts, Optional<ByteBuffer> payload) {
+    if (topicParts.length != 3 || payload.isEmpty()) {
+      log.debug("ignoring message for topic {}", topic);
+      return;
+    }
+    switch (topicParts[2]) {
+      case "devices" -> {
+        String message = UTF_8.decode(payload.get()).toString();
+        groupRegistry.setDevices(List.of(objectMapper.readValue(message, Zigbee2MqttBridgeDevice[].class)));
+        createGroupDevices();
+        if (messageRecorder != null) {
+          messageRecorder.retainDevices(groupRegistry.getFriendlyNames());
+        }
       }
+      case "groups" -> {
+        String message = UTF_8.decode(payload.get()).toString();
+        groupRegistry.setGroups(List.of(objectMapper.readValue(message, Zigbee2MqttBridgeGroup[].class)));
+        createGroupDevices();
+      }
+      default -> log.debug("ignoring message for topic {}", topic);
+    }
+  }
+
+  private void createGroupDevices() {
+    groupRegistry.getGroups().forEach(group -> {
+      getOrCreateDevice(new DeviceId(group.name(), ZIGBEE_2_MQTT));
+      group.members().forEach(this::getOrCreateDevice);
+    });
+  }
+
+  private void turnOffGroupMembers(Zigbee2MqttGroup group) {
+    // an aggregated OFF means that all members are off, an aggregated ON only that at least one member is on
+    OffsetDateTime now = OffsetDateTime.now();
+    for (DevicePropertyId memberPropertyId : group.relayPropertyIds()) {
+      if (!isOptimisticStateConfirmation(memberPropertyId, false)) {
+        relayStateValueUpdateService.setValue(false, now, memberPropertyId, memberPropertyId.deviceId() + ": Relay");
+      }
+      groupRegistry.expectMemberEcho(memberPropertyId, false, true);
+    }
+  }
+
+  private boolean isOptimisticStateConfirmation(DevicePropertyId devicePropertyId, Object value) {
+    return optimisticStateTracker != null && optimisticStateTracker.confirm(devicePropertyId, value);
+  }
+
+  private Device getOrCreateDevice(DeviceId deviceId) {
+    return deviceRepository.getByDeviceId(deviceId).orElseGet(() -> {
+      Device newDevice = zigbee2MqttDeviceFactory.createDevice(deviceId.type(), deviceId.id(), deviceId.toString(), Map.of(), Map.of()).orElseThrow();
+      deviceRepository.save(newDevice);
+      return newDevice;
     });
   }
 
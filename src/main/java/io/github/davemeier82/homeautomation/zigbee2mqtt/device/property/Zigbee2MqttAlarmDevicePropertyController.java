@@ -1,5 +1,5 @@
 /*
- * Copyright 2021-2023 the original author or authors.
+ * Copyright 2021-2026 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,8 +21,11 @@ import io.github.davemeier82.homeautomation.core.device.property.AlarmDeviceProp
 import io.github.davemeier82.homeautomation.core.device.property.AlarmState;
 import io.github.davemeier82.homeautomation.core.device.property.DevicePropertyId;
 import io.github.davemeier82.homeautomation.core.mqtt.MqttClient;
+import io.github.davemeier82.homeautomation.core.updater.AlarmStateValueUpdateService;
 import io.github.davemeier82.homeautomation.zigbee2mqtt.device.Zigbee2MqttDeviceType;
+import io.github.davemeier82.homeautomation.zigbee2mqtt.device.property.Zigbee2MqttOptimisticStateTracker.CommandMode;
 
+import java.time.OffsetDateTime;
 import java.util.Set;
 
 import static io.github.davemeier82.homeautomation.zigbee2mqtt.Zigbee2MqttSubscriber.MQTT_TOPIC;
@@ -31,13 +34,30 @@ public class Zigbee2MqttAlarmDevicePropertyController implements AlarmDeviceProp
 
   private static final Set<Zigbee2MqttDeviceType> DEVICE_TYPES = Set.of(Zigbee2MqttDeviceType.ZIGBEE_2_MQTT);
   private final MqttClient mqttClient;
+  private final Zigbee2MqttOptimisticStateTracker optimisticStateTracker;
+  private final AlarmStateValueUpdateService alarmStateValueUpdateService;
 
   public Zigbee2MqttAlarmDevicePropertyController(MqttClient mqttClient) {
+    this(mqttClient, null, null);
+  }
+
+  public Zigbee2MqttAlarmDevicePropertyController(MqttClient mqttClient,
+                                                  Zigbee2MqttOptimisticStateTracker optimisticStateTracker,
+                                                  AlarmStateValueUpdateService alarmStateValueUpdateService
+  ) {
     this.mqttClient = mqttClient;
+    this.optimisticStateTracker = optimisticStateTracker;
+    this.alarmStateValueUpdateService = alarmStateValueUpdateService;
   }
 
   @Override
   public void setAlarmState(DevicePropertyId devicePropertyId, AlarmState alarmState) {
+    CommandMode commandMode = optimisticStateTracker == null
+        ? CommandMode.SEND
+        : optimisticStateTracker.expect(devicePropertyId, alarmState, value -> updateAlarmState(devicePropertyId, value));
+    if (commandMode == CommandMode.SKIP) {
+      return;
+    }
     String zigbeeState = switch (alarmState) {
       case OFF -> "stop";
       case PRE_ALARM -> "pre_alarm";
@@ -46,10 +66,17 @@ public class Zigbee2MqttAlarmDevicePropertyController implements AlarmDeviceProp
       case SILENCED -> "silenced";
     };
     mqttClient.publish(MQTT_TOPIC + "/" + devicePropertyId.deviceId().id() + "/set", "{ \"alarm\": \"" + zigbeeState + "\" } ");
+    if (commandMode == CommandMode.SEND_OPTIMISTIC) {
+      updateAlarmState(devicePropertyId, alarmState);
+    }
   }
 
   @Override
   public Set<? extends DeviceType> getSupportedDeviceTypes() {
     return DEVICE_TYPES;
   }
+
+  private void updateAlarmState(DevicePropertyId devicePropertyId, AlarmState alarmState) {
+    alarmStateValueUpdateService.setValue(alarmState, OffsetDateTime.now(), devicePropertyId, devicePropertyId.deviceId() + ": Alarm State");
+  }
 }
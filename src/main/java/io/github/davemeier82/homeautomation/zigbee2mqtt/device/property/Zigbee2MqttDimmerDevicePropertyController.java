@@ -0,0 +1,143 @@
+/*
+ * Copyright 2021-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.davemeier82.homeautomation.zigbee2mqtt.device.property;
+
+import io.github.davemeier82.homeautomation.core.device.DeviceId;
+import io.github.davemeier82.homeautomation.core.device.property.DevicePropertyId;
+import io.github.davemeier82.homeautomation.core.mqtt.MqttClient;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static io.github.davemeier82.homeautomation.zigbee2mqtt.Zigbee2MqttSubscriber.MQTT_TOPIC;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Sends brightness commands to zigbee2mqtt lights. At most one command per device is published within the configured interval,
+ * commands received in between replace each other and only the latest brightness is sent once the interval has passed.
+ * Brightness reported by the devices is published as {@link Zigbee2MqttBrightnessReportedEvent} when it changes.
+ * This controller does not implement a core controller interface, so callers inject this bean directly.
+ */
+public class Zigbee2MqttDimmerDevicePropertyController implements AutoCloseable {
+
+  public static final int MAX_BRIGHTNESS = 254;
+  private final MqttClient mqttClient;
+  private final ApplicationEventPublisher applicationEventPublisher;
+  private final long minCommandIntervalNanos;
+  private final ScheduledExecutorService scheduler;
+  private final Map<DeviceId, DimmerState> dimmerStates = new ConcurrentHashMap<>();
+
+  public Zigbee2MqttDimmerDevicePropertyController(MqttClient mqttClient, ApplicationEventPublisher applicationEventPublisher, Duration minCommandInterval) {
+    this.mqttClient = mqttClient;
+    this.applicationEventPublisher = applicationEventPublisher;
+    this.minCommandIntervalNanos = minCommandInterval.toNanos();
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "zigbee2mqtt-dimmer");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  public void setDimmingLevel(DevicePropertyId devicePropertyId, int percent) {
+    setBrightness(devicePropertyId, Math.round(Math.max(0, Math.min(100, percent)) * MAX_BRIGHTNESS / 100f));
+  }
+
+  public void setBrightness(DevicePropertyId devicePropertyId, int brightness) {
+    DeviceId deviceId = devicePropertyId.deviceId();
+    DimmerState state = dimmerStates.computeIfAbsent(deviceId, id -> new DimmerState());
+    Integer brightnessToSend = null;
+    synchronized (state) {
+      state.pendingBrightness = Math.max(0, Math.min(MAX_BRIGHTNESS, brightness));
+      if (state.flushScheduled) {
+        return;
+      }
+      long delay = state.lastSentNanos + minCommandIntervalNanos - System.nanoTime();
+      if (!state.sent || delay <= 0) {
+        brightnessToSend = takePendingBrightness(state);
+      } else {
+        state.flushScheduled = true;
+        scheduler.schedule(() -> flushScheduled(deviceId, state), delay, NANOSECONDS);
+      }
+    }
+    publish(deviceId, brightnessToSend);
+  }
+
+  public void brightnessReported(DeviceId deviceId, int brightness) {
+    DimmerState state = dimmerStates.computeIfAbsent(deviceId, id -> new DimmerState());
+    Integer previousBrightness;
+    synchronized (state) {
+      previousBrightness = state.reportedBrightness;
+      state.reportedBrightness = brightness;
+    }
+    if (previousBrightness == null || previousBrightness != brightness) {
+      applicationEventPublisher.publishEvent(new Zigbee2MqttBrightnessReportedEvent(new DevicePropertyId(deviceId, "brightness"), brightness, previousBrightness));
+    }
+  }
+
+  public Optional<Integer> getReportedBrightness(DeviceId deviceId) {
+    DimmerState state = dimmerStates.get(deviceId);
+    if (state == null) {
+      return Optional.empty();
+    }
+    synchronized (state) {
+      return Optional.ofNullable(state.reportedBrightness);
+    }
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+
+  private void flushScheduled(DeviceId deviceId, DimmerState state) {
+    Integer brightnessToSend;
+    synchronized (state) {
+      state.flushScheduled = false;
+      brightnessToSend = takePendingBrightness(state);
+    }
+    publish(deviceId, brightnessToSend);
+  }
+
+  private static Integer takePendingBrightness(DimmerState state) {
+    Integer brightness = state.pendingBrightness;
+    if (brightness != null) {
+      state.pendingBrightness = null;
+      state.lastSentNanos = System.nanoTime();
+      state.sent = true;
+    }
+    return brightness;
+  }
+
+  private void publish(DeviceId deviceId, Integer brightness) {
+    if (brightness != null) {
+      mqttClient.publish(MQTT_TOPIC + "/" + deviceId.id() + "/set", "{ \"brightness\": " + brightness + " }");
+    }
+  }
+
+  private static final class DimmerState {
+    private Integer pendingBrightness;
+    private Integer reportedBrightness;
+    private long lastSentNanos;
+    private boolean sent;
+    private boolean flushScheduled;
+  }
+}
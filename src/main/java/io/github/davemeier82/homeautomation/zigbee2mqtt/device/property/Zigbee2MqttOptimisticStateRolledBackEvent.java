@@ -0,0 +1,26 @@
+/*
+ * Copyright 2021-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.davemeier82.homeautomation.zigbee2mqtt.device.property;
+
+import io.github.davemeier82.homeautomation.core.device.property.DevicePropertyId;
+
+/**
+ * Published when an optimistic value was not confirmed by the device. {@code restoredValue} is the value the device reported
+ * instead, or the last confirmed value after a timeout.
+ */
+public record Zigbee2MqttOptimisticStateRolledBackEvent(DevicePropertyId devicePropertyId, Object expectedValue, Object restoredValue) {
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2021-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.davemeier82.homeautomation.zigbee2mqtt.device.property;
+
+import io.github.davemeier82.homeautomation.core.device.property.DevicePropertyId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Tracks the states that were optimistically published for commands until the device confirms them.
+ * A value only becomes pending if the device already reported a state, so there is always a confirmed state to roll back to.
+ * If the device does not report an expected value within the timeout, or reports a value none of the outstanding commands
+ * expects, the pending values are dropped, the confirmed value is restored and a {@link Zigbee2MqttOptimisticStateRolledBackEvent}
+ * is published. {@link Zigbee2MqttOptimisticStatePendingEvent} and {@link Zigbee2MqttOptimisticStateConfirmedEvent} mark the
+ * published value as pending and confirmed.
+ */
+public class Zigbee2MqttOptimisticStateTracker implements AutoCloseable {
+  private static final Logger log = LoggerFactory.getLogger(Zigbee2MqttOptimisticStateTracker.class);
+  private final ApplicationEventPublisher applicationEventPublisher;
+  private final long timeoutMillis;
+  private final ScheduledExecutorService scheduler;
+  private final Map<DevicePropertyId, PropertyState> propertyStates = new ConcurrentHashMap<>();
+
+  public Zigbee2MqttOptimisticStateTracker(ApplicationEventPublisher applicationEventPublisher, Duration timeout) {
+    this.applicationEventPublisher = applicationEventPublisher;
+    this.timeoutMillis = timeout.toMillis();
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "zigbee2mqtt-optimistic-state");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Registers the value of a command that is about to be sent.
+   *
+   * @return {@link CommandMode#SKIP} if the value is already confirmed or the last pending one,
+   * {@link CommandMode#SEND} if the device never reported a value and the command must be sent without publishing it, and
+   * {@link CommandMode#SEND_OPTIMISTIC} if the value is pending and must be published together with the command
+   */
+  @SuppressWarnings("unchecked")
+  public <T> CommandMode expect(DevicePropertyId devicePropertyId, T value, Consumer<T> rollback) {
+    PropertyState state = propertyStates.computeIfAbsent(devicePropertyId, id -> new PropertyState());
+    synchronized (state) {
+      Object currentValue = state.pendingCommands.isEmpty() ? state.confirmedValue : state.pendingCommands.getLast().value();
+      if (value.equals(currentValue)) {
+        log.debug("skipping command for {}, {} is already {}", devicePropertyId, value, state.pendingCommands.isEmpty() ? "confirmed" : "pending");
+        return CommandMode.SKIP;
+      }
+      if (state.confirmedValue == null) {
+        return CommandMode.SEND;
+      }
+      long generation = ++state.generation;
+      ScheduledFuture<?> timeout = scheduler.schedule(() -> timeout(devicePropertyId, state, generation), timeoutMillis, MILLISECONDS);
+      state.pendingCommands.addLast(new PendingCommand(value, generation, timeout));
+      state.rollback = (Consumer<Object>) rollback;
+    }
+    applicationEventPublisher.publishEvent(new Zigbee2MqttOptimisticStatePendingEvent(devicePropertyId, value));
+    return CommandMode.SEND_OPTIMISTIC;
+  }
+
+  /**
+   * Records a value reported by the device. A report matching an outstanding command confirms it and all commands sent before.
+   * A report matching none of them drops all pending values and publishes a {@link Zigbee2MqttOptimisticStateRolledBackEvent},
+   * the reported value is then published by the caller.
+   *
+   * @return true if the value matches an outstanding command and must not be published again
+   */
+  public boolean confirm(DevicePropertyId devicePropertyId, Object value) {
+    PropertyState state = propertyStates.computeIfAbsent(devicePropertyId, id -> new PropertyState());
+    Object expectedValue;
+    synchronized (state) {
+      state.confirmedValue = value;
+      if (state.pendingCommands.isEmpty()) {
+        return false;
+      }
+      if (state.pendingCommands.stream().anyMatch(command -> command.value().equals(value))) {
+        Iterator<PendingCommand> commands = state.pendingCommands.iterator();
+        PendingCommand command;
+        do {
+          command = commands.next();
+          command.timeout().cancel(false);
+          commands.remove();
+        } while (!command.value().equals(value));
+      } else {
+        expectedValue = state.pendingCommands.getLast().value();
+        clearPendingCommands(state);
+        log.warn("{} reported {} instead of {}", devicePropertyId, value, expectedValue);
+        applicationEventPublisher.publishEvent(new Zigbee2MqttOptimisticStateRolledBackEvent(devicePropertyId, expectedValue, value));
+        return false;
+      }
+    }
+    applicationEventPublisher.publishEvent(new Zigbee2MqttOptimisticStateConfirmedEvent(devicePropertyId, value));
+    return true;
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+
+  private void timeout(DevicePropertyId devicePropertyId, PropertyState state, long generation) {
+    Object expectedValue;
+    Object restoredValue;
+    Consumer<Object> rollback;
+    synchronized (state) {
+      if (state.pendingCommands.stream().noneMatch(command -> command.generation() == generation)) {
+        return;
+      }
+      expectedValue = state.pendingCommands.getLast().value();
+      clearPendingCommands(state);
+      restoredValue = state.confirmedValue;
+      rollback = state.rollback;
+    }
+    log.warn("no confirmation of {} for {}, rolling back to {}", expectedValue, devicePropertyId, restoredValue);
+    rollback.accept(restoredValue);
+    applicationEventPublisher.publishEvent(new Zigbee2MqttOptimisticStateRolledBackEvent(devicePropertyId, expectedValue, restoredValue));
+  }
+
+  private static void clearPendingCommands(PropertyState state) {
+    state.pendingCommands.forEach(command -> command.timeout().cancel(false));
+    state.pendingCommands.clear();
+  }
+
+  public enum CommandMode {
+    SKIP,
+    SEND,
+    SEND_OPTIMISTIC
+  }
+
+  private record PendingCommand(Object value, long generation, ScheduledFuture<?> timeout) {
+  }
+
+  private static final class PropertyState {
+    private final Deque<PendingCommand> pendingCommands = new ArrayDeque<>();
+    private Object confirmedValue;
+    private Consumer<Object> rollback;
+    private long generation;
+  }
+}
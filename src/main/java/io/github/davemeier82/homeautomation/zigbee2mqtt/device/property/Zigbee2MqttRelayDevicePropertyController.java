@@ -1,5 +1,5 @@
 /*
- * Copyright 2021-2022 the original author or authors.
+ * Copyright 2021-2026 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,8 +20,12 @@ import io.github.davemeier82.homeautomation.core.device.DeviceType;
 import io.github.davemeier82.homeautomation.core.device.property.DevicePropertyId;
 import io.github.davemeier82.homeautomation.core.device.property.RelayDevicePropertyController;
 import io.github.davemeier82.homeautomation.core.mqtt.MqttClient;
+import io.github.davemeier82.homeautomation.core.updater.RelayStateValueUpdateService;
+import io.github.davemeier82.homeautomation.zigbee2mqtt.Zigbee2MqttGroupRegistry;
 import io.github.davemeier82.homeautomation.zigbee2mqtt.device.Zigbee2MqttDeviceType;
+import io.github.davemeier82.homeautomation.zigbee2mqtt.device.property.Zigbee2MqttOptimisticStateTracker.CommandMode;
 
+import java.time.OffsetDateTime;
 import java.util.Set;
 
 import static io.github.davemeier82.homeautomation.zigbee2mqtt.Zigbee2MqttSubscriber.MQTT_TOPIC;
@@ -30,31 +34,87 @@ public class Zigbee2MqttRelayDevicePropertyController implements RelayDeviceProp
 
   private static final Set<Zigbee2MqttDeviceType> DEVICE_TYPES = Set.of(Zigbee2MqttDeviceType.ZIGBEE_2_MQTT);
   private final MqttClient mqttClient;
+  private final RelayStateValueUpdateService relayStateValueUpdateService;
+  private final Zigbee2MqttGroupRegistry groupRegistry;
+  private final Zigbee2MqttOptimisticStateTracker optimisticStateTracker;
 
   public Zigbee2MqttRelayDevicePropertyController(MqttClient mqttClient) {
+    this(mqttClient, null, null, null);
+  }
+
+  public Zigbee2MqttRelayDevicePropertyController(MqttClient mqttClient,
+                                                  RelayStateValueUpdateService relayStateValueUpdateService,
+                                                  Zigbee2MqttGroupRegistry groupRegistry,
+                                                  Zigbee2MqttOptimisticStateTracker optimisticStateTracker
+  ) {
     this.mqttClient = mqttClient;
+    this.relayStateValueUpdateService = relayStateValueUpdateService;
+    this.groupRegistry = groupRegistry;
+    this.optimisticStateTracker = optimisticStateTracker;
   }
 
   @Override
   public void turnOn(DevicePropertyId devicePropertyId) {
+    CommandMode commandMode = expect(devicePropertyId, true);
+    if (commandMode == CommandMode.SKIP) {
+      return;
+    }
     mqttClient.publish(MQTT_TOPIC + "/" + devicePropertyId.deviceId().id() + "/set", """
         {
           "state": "ON"
         }
         """);
+    if (commandMode == CommandMode.SEND_OPTIMISTIC) {
+      setRelayState(devicePropertyId, true);
+    }
+    fanOutToGroupMembers(devicePropertyId, true);
   }
 
   @Override
   public void turnOff(DevicePropertyId devicePropertyId) {
+    CommandMode commandMode = expect(devicePropertyId, false);
+    if (commandMode == CommandMode.SKIP) {
+      return;
+    }
     mqttClient.publish(MQTT_TOPIC + "/" + devicePropertyId.deviceId().id() + "/set", """
         {
           "state": "OFF"
         }
         """);
+    if (commandMode == CommandMode.SEND_OPTIMISTIC) {
+      setRelayState(devicePropertyId, false);
+    }
+    fanOutToGroupMembers(devicePropertyId, false);
   }
 
   @Override
   public Set<? extends DeviceType> getSupportedDeviceTypes() {
     return DEVICE_TYPES;
   }
+
+  private CommandMode expect(DevicePropertyId devicePropertyId, boolean isOn) {
+    if (optimisticStateTracker == null) {
+      return CommandMode.SEND;
+    }
+    return optimisticStateTracker.expect(devicePropertyId, isOn, value -> setRelayState(devicePropertyId, value));
+  }
+
+  private void fanOutToGroupMembers(DevicePropertyId devicePropertyId, boolean isOn) {
+    if (groupRegistry == null || relayStateValueUpdateService == null) {
+      return;
+    }
+    groupRegistry.getGroup(devicePropertyId.deviceId().id()).ifPresent(group -> {
+      for (DevicePropertyId memberPropertyId : group.relayPropertyIds()) {
+        CommandMode commandMode = expect(memberPropertyId, isOn);
+        if (commandMode == CommandMode.SEND_OPTIMISTIC) {
+          setRelayState(memberPropertyId, isOn);
+        }
+        groupRegistry.expectMemberEcho(memberPropertyId, isOn, commandMode != CommandMode.SEND);
+      }
+    });
+  }
+
+  private void setRelayState(DevicePropertyId devicePropertyId, boolean isOn) {
+    relayStateValueUpdateService.setValue(isOn, OffsetDateTime.now(), devicePropertyId, devicePropertyId.deviceId() + ": Relay");
+  }
 }
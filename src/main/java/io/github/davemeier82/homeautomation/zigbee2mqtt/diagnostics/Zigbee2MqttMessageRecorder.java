@@ -0,0 +1,140 @@
+/*
+ * Copyright 2021-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.davemeier82.homeautomation.zigbee2mqtt.diagnostics;
+
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the last raw payloads received from zigbee2mqtt in a bounded ring of preallocated slots per device, so a chatty
+ * device cannot evict the payloads of another one. Payloads of devices beyond the configured maximum number of devices are not
+ * recorded.
+ * Writers never block: a message is dropped if its slot is currently being written by another thread.
+ */
+public class Zigbee2MqttMessageRecorder {
+  private static final long WRITING = -1;
+  private final int capacityPerDevice;
+  private final int maxPayloadSize;
+  private final int maxDevices;
+  private final Map<String, Ring> rings = new ConcurrentHashMap<>();
+
+  public Zigbee2MqttMessageRecorder(int capacityPerDevice, int maxPayloadSize, int maxDevices) {
+    if (capacityPerDevice <= 0 || maxPayloadSize <= 0 || maxDevices <= 0) {
+      throw new IllegalArgumentException("capacityPerDevice, maxPayloadSize and maxDevices must be positive");
+    }
+    this.capacityPerDevice = capacityPerDevice;
+    this.maxPayloadSize = maxPayloadSize;
+    this.maxDevices = maxDevices;
+  }
+
+  public void record(String deviceId, ByteBuffer payload) {
+    Ring ring = rings.get(deviceId);
+    if (ring == null) {
+      if (rings.size() >= maxDevices) {
+        return;
+      }
+      ring = rings.computeIfAbsent(deviceId, id -> new Ring(capacityPerDevice, maxPayloadSize));
+    }
+    ring.record(payload);
+  }
+
+  public void retainDevices(Set<String> deviceIds) {
+    rings.keySet().retainAll(deviceIds);
+  }
+
+  public List<Zigbee2MqttRecordedMessage> getMessages() {
+    List<Zigbee2MqttRecordedMessage> messages = new ArrayList<>();
+    rings.forEach((deviceId, ring) -> ring.collect(deviceId, messages));
+    messages.sort(Comparator.comparing(Zigbee2MqttRecordedMessage::receivedAt));
+    return messages;
+  }
+
+  public List<Zigbee2MqttRecordedMessage> getMessages(String deviceId) {
+    List<Zigbee2MqttRecordedMessage> messages = new ArrayList<>();
+    Ring ring = rings.get(deviceId);
+    if (ring != null) {
+      ring.collect(deviceId, messages);
+    }
+    return messages;
+  }
+
+  private static final class Ring {
+    private final Slot[] slots;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private Ring(int capacity, int maxPayloadSize) {
+      slots = new Slot[capacity];
+      for (int i = 0; i < capacity; i++) {
+        slots[i] = new Slot(maxPayloadSize);
+      }
+    }
+
+    private void record(ByteBuffer payload) {
+      long seq = sequence.getAndIncrement();
+      Slot slot = slots[(int) (seq % slots.length)];
+      long version = slot.version.get();
+      if (version == WRITING || !slot.version.compareAndSet(version, WRITING)) {
+        return;
+      }
+      int length = Math.min(payload.remaining(), slot.data.length);
+      payload.get(payload.position(), slot.data, 0, length);
+      slot.length = length;
+      slot.truncated = length < payload.remaining();
+      slot.receivedAtMillis = System.currentTimeMillis();
+      slot.version.set(seq);
+    }
+
+    private void collect(String deviceId, List<Zigbee2MqttRecordedMessage> messages) {
+      long end = sequence.get();
+      long start = Math.max(0, end - slots.length);
+      for (long seq = start; seq < end; seq++) {
+        Slot slot = slots[(int) (seq % slots.length)];
+        if (slot.version.get() != seq) {
+          continue;
+        }
+        long receivedAtMillis = slot.receivedAtMillis;
+        boolean truncated = slot.truncated;
+        byte[] payload = Arrays.copyOf(slot.data, slot.length);
+        VarHandle.acquireFence();
+        if (slot.version.get() == seq) {
+          messages.add(new Zigbee2MqttRecordedMessage(deviceId, Instant.ofEpochMilli(receivedAtMillis), ByteBuffer.wrap(payload), truncated));
+        }
+      }
+    }
+  }
+
+  private static final class Slot {
+    private final AtomicLong version = new AtomicLong(WRITING - 1);
+    private final byte[] data;
+    private int length;
+    private boolean truncated;
+    private long receivedAtMillis;
+
+    private Slot(int maxPayloadSize) {
+      data = new byte[maxPayloadSize];
+    }
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2021-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.davemeier82.homeautomation.zigbee2mqtt.diagnostics;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public record Zigbee2MqttRecordedMessage(String deviceId, Instant receivedAt, ByteBuffer payload, boolean truncated) {
+
+  public Zigbee2MqttRecordedMessage {
+    payload = payload.asReadOnlyBuffer();
+  }
+
+  @Override
+  public ByteBuffer payload() {
+    return payload.duplicate();
+  }
+
+  public String payloadAsString() {
+    return UTF_8.decode(payload()).toString();
+  }
+
+  @Override
+  public String toString() {
+    return receivedAt + " " + deviceId + ": " + payloadAsString() + (truncated ? "..." : "");
+  }
+}